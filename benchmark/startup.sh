@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Compares cold start of the CDS + AOT image against the plain JarLauncher image.
+#
+# For each image the container is started RUNS times; the script records the time from
+# `docker run` until the first HTTP response is served, and the resident memory (VmRSS)
+# of the JVM right after that first response.
+#
+# Usage: ./benchmark/startup.sh            (RUNS=10 PORT=18080 ./benchmark/startup.sh)
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+JAR_FILE=./build/libs/receiptprocessor-1.0.0.jar
+NETWORK=receipt-processor-services_processor-postgres-network
+CONTAINER=receipt-processor-startup-benchmark
+
+cd "$(dirname "$0")/.."
+
+./gradlew -q bootJar
+docker compose up -d --wait postgres
+docker build -q --build-arg JAR_FILE="$JAR_FILE" --target jarlauncher \
+  -t receipt-processor:jarlauncher . >/dev/null
+docker build -q --build-arg JAR_FILE="$JAR_FILE" -t receipt-processor:cds . >/dev/null
+
+# Prints "<milliseconds to first response> <rss in MiB>" for a single cold start
+measure() {
+  local image=$1 start end rss
+  docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+  start=$(date +%s%N)
+  docker run -d --name "$CONTAINER" --network "$NETWORK" -p "$PORT:8080" "$image" >/dev/null
+  # Any response counts, a 404 for an unknown receipt is still a served request
+  until curl -s -o /dev/null "http://localhost:$PORT/receipts/0/points"; do
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  rss=$(docker exec "$CONTAINER" awk '/VmRSS/ {print $2}' /proc/1/status)
+  docker rm -f "$CONTAINER" >/dev/null
+  echo "$(((end - start) / 1000000)) $((rss / 1024))"
+}
+
+printf '%-30s %20s %15s\n' "image" "first request (ms)" "rss (MiB)"
+for image in receipt-processor:jarlauncher receipt-processor:cds; do
+  for _ in $(seq "$RUNS"); do
+    measure "$image"
+  done | awk -v image="$image" '{ t += $1; m += $2 }
+    END { printf "%-30s %20d %15d\n", image, t / NR, m / NR }'
+done
@@ -0,0 +1,107 @@
+package com.danielvm.receiptprocessor.config;
+
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourcePoolMetrics;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfiguration {
+
+  private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+  /**
+   * The application's datasource. The primary database is configured through
+   * {@code spring.datasource.*} (or a service connection) like Spring Boot's default, read
+   * replicas through {@code receiptprocessor.datasource.replicas}. Pool settings in
+   * {@code spring.datasource.hikari.*} apply to every pool
+   *
+   * @return a datasource that routes read-only transactions to the replicas, if any
+   */
+  @Bean
+  public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties,
+      ObjectProvider<JdbcConnectionDetails> connectionDetails,
+      DataSourceRoutingProperties routingProperties, Environment environment) {
+    Binder binder = Binder.get(environment);
+    HikariDataSource primary = properties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    connectionDetails.ifAvailable(details -> {
+      primary.setJdbcUrl(details.getJdbcUrl());
+      primary.setUsername(details.getUsername());
+      primary.setPassword(details.getPassword());
+      primary.setDriverClassName(details.getDriverClassName());
+    });
+    binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (Replica replica : routingProperties.replicas()) {
+      HikariDataSource pool = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .driverClassName(properties.determineDriverClassName())
+          .url(replica.url())
+          .username(Objects.requireNonNullElse(replica.username(), properties.determineUsername()))
+          .password(Objects.requireNonNullElse(replica.password(), properties.determinePassword()))
+          .build();
+      binder.bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+      pool.setPoolName("replica-" + replicas.size());
+      pool.setReadOnly(true);
+      replicas.add(pool);
+    }
+    return new ReadWriteRoutingDataSource(primary, replicas);
+  }
+
+  /**
+   * Health of the replica pools, reported as 'replicas' next to the primary's 'db'
+   *
+   * @return one datasource health indicator per replica
+   */
+  @Bean
+  public HealthContributor replicasHealthContributor(ReadWriteRoutingDataSource dataSource) {
+    Map<String, HealthContributor> replicas = new LinkedHashMap<>();
+    for (HikariDataSource replica : dataSource.getReplicas()) {
+      replicas.put(replica.getPoolName(), new DataSourceHealthIndicator(replica));
+    }
+    return CompositeHealthContributor.fromMap(replicas);
+  }
+
+  /**
+   * Pool metrics of the replicas, the same Spring Boot records for the primary: hikaricp.* and
+   * jdbc.connections.*, tagged with the pool name
+   *
+   * @return a binder for the replica pools
+   */
+  @Bean
+  public MeterBinder replicaPoolMetrics(ReadWriteRoutingDataSource dataSource,
+      ObjectProvider<DataSourcePoolMetadataProvider> metadataProviders) {
+    return registry -> {
+      for (HikariDataSource replica : dataSource.getReplicas()) {
+        // the tracker can only be set once, but the binder runs for every registry
+        if (replica.getMetricsTrackerFactory() == null) {
+          replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        new DataSourcePoolMetrics(replica, metadataProviders.orderedStream().toList(),
+            replica.getPoolName(), List.of()).bindTo(registry);
+      }
+    };
+  }
+}
@@ -0,0 +1,27 @@
+package com.danielvm.receiptprocessor.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas of the primary database configured through {@code spring.datasource.*}
+ *
+ * @param replicas       the replicas read-only transactions are spread across, none by default
+ * @param maxReplicaLag  how far the replicas may fall behind the primary. With the partitioned
+ *                       schema, a receipt a replica does not find is only looked up on the
+ *                       primary if it was created this recently
+ */
+@ConfigurationProperties("receiptprocessor.datasource")
+public record DataSourceRoutingProperties(
+    @DefaultValue List<Replica> replicas,
+    @DefaultValue("10s") Duration maxReplicaLag) {
+
+  /**
+   * A read replica. Username and password default to the ones of the primary database
+   */
+  public record Replica(String url, String username, String password) {
+
+  }
+}
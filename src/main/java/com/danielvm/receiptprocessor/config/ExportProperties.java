@@ -0,0 +1,16 @@
+package com.danielvm.receiptprocessor.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the receipt export
+ *
+ * @param timeout time an export may take before the response is aborted. Only applies to
+ *                exports, other asynchronous requests keep the default timeout
+ */
+@ConfigurationProperties("receiptprocessor.export")
+public record ExportProperties(@DefaultValue("1h") Duration timeout) {
+
+}
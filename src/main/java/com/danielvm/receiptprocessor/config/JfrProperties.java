@@ -0,0 +1,23 @@
+package com.danielvm.receiptprocessor.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the continuous flight recording
+ *
+ * @param enabled  whether the recording is started with the application
+ * @param settings name of the JFR configuration to use, e.g. 'default' or 'profile'
+ * @param maxSize  how much recorded data is kept on disk before the oldest chunks are discarded
+ * @param maxAge   how long recorded data is kept before it is discarded
+ */
+@ConfigurationProperties("receiptprocessor.jfr")
+public record JfrProperties(
+    boolean enabled,
+    @DefaultValue("default") String settings,
+    @DefaultValue("100MB") DataSize maxSize,
+    @DefaultValue("6h") Duration maxAge) {
+
+}
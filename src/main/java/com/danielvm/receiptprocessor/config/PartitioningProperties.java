@@ -0,0 +1,25 @@
+package com.danielvm.receiptprocessor.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the time partitioned receipt table
+ *
+ * @param enabled      whether partitions are maintained, requires the schema in
+ *                     schema-partitioned.sql
+ * @param interval     the span of creation time covered by each partition
+ * @param premake      how many partitions are created ahead of the current one
+ * @param retention    how long receipts are kept before their partition is detached
+ * @param dropDetached whether detached partitions are dropped, or left as standalone tables
+ */
+@ConfigurationProperties("receiptprocessor.partitioning")
+public record PartitioningProperties(
+    boolean enabled,
+    @DefaultValue("1d") Duration interval,
+    @DefaultValue("7") int premake,
+    @DefaultValue("90d") Duration retention,
+    @DefaultValue("true") boolean dropDetached) {
+
+}
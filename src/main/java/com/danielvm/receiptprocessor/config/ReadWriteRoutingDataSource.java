@@ -0,0 +1,67 @@
+package com.danielvm.receiptprocessor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions to the replicas, in turns, and everything else to the primary.
+ * Connections are fetched lazily, once the transaction's read-only flag is known
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+  private final HikariDataSource primary;
+
+  private final List<HikariDataSource> replicas;
+
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+    this.primary = primary;
+    this.replicas = List.copyOf(replicas);
+    setTargetDataSource(primary);
+    if (!this.replicas.isEmpty()) {
+      setReadOnlyDataSource(new RoundRobinReplicas());
+    }
+    // PostgreSQL defaults, so that no connection is needed to look them up on startup
+    setDefaultAutoCommit(true);
+    setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    afterPropertiesSet();
+  }
+
+  /**
+   * The replica pools, not registered as beans, so that their number can change after AOT
+   * processing
+   */
+  public List<HikariDataSource> getReplicas() {
+    return replicas;
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+    primary.close();
+  }
+
+  private final class RoundRobinReplicas extends AbstractDataSource {
+
+    private HikariDataSource next() {
+      return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return next().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return next().getConnection(username, password);
+    }
+  }
+}
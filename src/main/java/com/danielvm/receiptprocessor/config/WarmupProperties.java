@@ -0,0 +1,22 @@
+package com.danielvm.receiptprocessor.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the warm-up that runs before the application reports ready
+ *
+ * @param enabled            whether the warm-up runs at all
+ * @param iterations         synthetic receipts deserialized and scored, enough for the JIT to
+ *                           compile the hot paths
+ * @param databaseRoundTrips read-only lookups sent to the database, spread over as many threads
+ *                           as the connection pool holds, to open the pooled connections and
+ *                           prepare the statements
+ */
+@ConfigurationProperties("receiptprocessor.warmup")
+public record WarmupProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") int iterations,
+    @DefaultValue("200") int databaseRoundTrips) {
+
+}
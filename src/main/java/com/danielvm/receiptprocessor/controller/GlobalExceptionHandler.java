@@ -1,6 +1,7 @@
 package com.danielvm.receiptprocessor.controller;
 
 import com.danielvm.receiptprocessor.dto.ErrorDetailsDto;
+import com.danielvm.receiptprocessor.exception.InvalidExportRequestException;
 import com.danielvm.receiptprocessor.exception.ReceiptNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
@@ -25,4 +26,19 @@ public class GlobalExceptionHandler {
         HttpStatus.NOT_FOUND);
     return new ResponseEntity<>(errorDetailsDto, HttpStatus.NOT_FOUND);
   }
+
+  /**
+   * Handles errors of type {@link InvalidExportRequestException}
+   *
+   * @param e       the exception
+   * @param request the original request
+   * @return HTTP 400 response
+   */
+  @ExceptionHandler(InvalidExportRequestException.class)
+  public ResponseEntity<ErrorDetailsDto> handleException(HttpServletRequest request,
+      InvalidExportRequestException e) {
+    ErrorDetailsDto errorDetailsDto = new ErrorDetailsDto(request.getRequestURI(), e.getMessage(),
+        HttpStatus.BAD_REQUEST);
+    return new ResponseEntity<>(errorDetailsDto, HttpStatus.BAD_REQUEST);
+  }
 }
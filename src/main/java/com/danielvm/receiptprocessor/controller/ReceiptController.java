@@ -1,17 +1,28 @@
 package com.danielvm.receiptprocessor.controller;
 
+import com.danielvm.receiptprocessor.config.ExportProperties;
+import com.danielvm.receiptprocessor.dto.ExportFormat;
 import com.danielvm.receiptprocessor.dto.PointsProcessResponse;
 import com.danielvm.receiptprocessor.dto.PointsResponse;
 import com.danielvm.receiptprocessor.dto.Receipt;
+import com.danielvm.receiptprocessor.dto.ReceiptExportFilter;
+import com.danielvm.receiptprocessor.service.ReceiptExportService;
 import com.danielvm.receiptprocessor.service.ReceiptProcessingService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.OffsetDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @RestController
 public class ReceiptController {
@@ -20,8 +31,15 @@ public class ReceiptController {
 
   private final ReceiptProcessingService receiptProcessingService;
 
-  public ReceiptController(ReceiptProcessingService receiptProcessingService) {
+  private final ReceiptExportService receiptExportService;
+
+  private final ExportProperties exportProperties;
+
+  public ReceiptController(ReceiptProcessingService receiptProcessingService,
+      ReceiptExportService receiptExportService, ExportProperties exportProperties) {
     this.receiptProcessingService = receiptProcessingService;
+    this.receiptExportService = receiptExportService;
+    this.exportProperties = exportProperties;
   }
 
   /**
@@ -52,4 +70,38 @@ public class ReceiptController {
     log.info("Retrieving points for receipt with id: [{}]", id);
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Export receipts and their points, streamed as they are read from the database
+   *
+   * @param format        'ndjson' (default) or 'csv'
+   * @param fromId        lowest receipt ID, inclusive
+   * @param toId          highest receipt ID, inclusive
+   * @param createdFrom   earliest creation time (ISO-8601), inclusive
+   * @param createdBefore latest creation time (ISO-8601), exclusive
+   * @param response      the response the receipts are written to, one per line in ID order
+   * @return the export, run asynchronously with its own timeout
+   */
+  @GetMapping("/receipts/export")
+  public WebAsyncTask<Void> exportReceipts(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(required = false) Long fromId,
+      @RequestParam(required = false) Long toId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      OffsetDateTime createdFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      OffsetDateTime createdBefore,
+      HttpServletResponse response) {
+    var exportFormat = ExportFormat.fromValue(format);
+    var filter = new ReceiptExportFilter(fromId, toId, createdFrom, createdBefore);
+    log.info("Exporting receipts as [{}] with filter {}", exportFormat.value(), filter);
+    response.setContentType(exportFormat.mediaType().toString());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+        .filename("receipts." + exportFormat.value()).build().toString());
+    // on timeout the task is interrupted, which stops the export and releases its connection
+    return new WebAsyncTask<>(exportProperties.timeout().toMillis(), () -> {
+      receiptExportService.export(filter, exportFormat, response.getOutputStream());
+      return null;
+    });
+  }
 }
@@ -0,0 +1,60 @@
+package com.danielvm.receiptprocessor.controller;
+
+import com.danielvm.receiptprocessor.dto.Receipt;
+import com.danielvm.receiptprocessor.jfr.ReceiptDeserializationEvent;
+import java.lang.reflect.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+@ControllerAdvice
+public class ReceiptDeserializationAdvice extends RequestBodyAdviceAdapter {
+
+  private static final String EVENT_ATTRIBUTE =
+      ReceiptDeserializationAdvice.class.getName() + ".event";
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return Receipt.class.equals(targetType);
+  }
+
+  /**
+   * Starts timing the deserialization of a receipt, only if the flight recorder event is enabled
+   */
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+      Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+    var event = new ReceiptDeserializationEvent();
+    if (event.isEnabled()) {
+      event.begin();
+      RequestContextHolder.currentRequestAttributes()
+          .setAttribute(EVENT_ATTRIBUTE, event, RequestAttributes.SCOPE_REQUEST);
+    }
+    return inputMessage;
+  }
+
+  /**
+   * Commits the deserialization event started in
+   * {@link #beforeBodyRead(HttpInputMessage, MethodParameter, Type, Class)}
+   */
+  @Override
+  public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+      Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+    var attributes = RequestContextHolder.currentRequestAttributes();
+    if (attributes.getAttribute(EVENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+        instanceof ReceiptDeserializationEvent event) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.describe((Receipt) body);
+        event.commit();
+      }
+      attributes.removeAttribute(EVENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+    return body;
+  }
+}
@@ -0,0 +1,43 @@
+package com.danielvm.receiptprocessor.dto;
+
+import com.danielvm.receiptprocessor.exception.InvalidExportRequestException;
+import java.util.Arrays;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+
+  NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+  CSV("csv", new MediaType("text", "csv"));
+
+  private final String value;
+
+  private final MediaType mediaType;
+
+  ExportFormat(String value, MediaType mediaType) {
+    this.value = value;
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * Resolves the format requested in the export query string
+   *
+   * @param value 'ndjson' or 'csv', case insensitive
+   * @return the export format
+   * @throws InvalidExportRequestException if the format is not supported
+   */
+  public static ExportFormat fromValue(String value) {
+    return Arrays.stream(values())
+        .filter(format -> format.value.equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(() -> new InvalidExportRequestException(
+            "Export format [%s] is not supported, use 'ndjson' or 'csv'".formatted(value)));
+  }
+
+  public String value() {
+    return value;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+}
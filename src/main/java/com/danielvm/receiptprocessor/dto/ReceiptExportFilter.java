@@ -0,0 +1,19 @@
+package com.danielvm.receiptprocessor.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Optional bounds of a receipt export, null bounds are not applied
+ *
+ * @param fromId        lowest receipt ID, inclusive
+ * @param toId          highest receipt ID, inclusive
+ * @param createdFrom   earliest creation time, inclusive
+ * @param createdBefore latest creation time, exclusive
+ */
+public record ReceiptExportFilter(
+    Long fromId,
+    Long toId,
+    OffsetDateTime createdFrom,
+    OffsetDateTime createdBefore) {
+
+}
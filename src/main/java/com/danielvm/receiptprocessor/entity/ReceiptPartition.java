@@ -0,0 +1,8 @@
+package com.danielvm.receiptprocessor.entity;
+
+/**
+ * A partition of the receipt table, holding the receipts with IDs in [fromId, toId)
+ */
+public record ReceiptPartition(String name, long fromId, long toId, boolean detachPending) {
+
+}
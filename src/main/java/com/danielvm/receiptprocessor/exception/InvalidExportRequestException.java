@@ -0,0 +1,8 @@
+package com.danielvm.receiptprocessor.exception;
+
+public class InvalidExportRequestException extends RuntimeException {
+
+  public InvalidExportRequestException(String message) {
+    super(message);
+  }
+}
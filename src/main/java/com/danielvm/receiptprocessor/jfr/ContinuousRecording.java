@@ -0,0 +1,77 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import com.danielvm.receiptprocessor.config.JfrProperties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Optional;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flight recording that runs for the lifetime of the application when
+ * {@code receiptprocessor.jfr.enabled} is set. Its size on disk is bounded by
+ * {@link JfrProperties#maxSize()} and {@link JfrProperties#maxAge()}
+ */
+@Component
+public class ContinuousRecording implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(ContinuousRecording.class);
+
+  /**
+   * JDK events that record the process environment, system properties and command line, which
+   * hold the database credentials
+   */
+  private static final List<String> SENSITIVE_EVENTS = List.of(
+      "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+  private final Recording recording;
+
+  public ContinuousRecording(JfrProperties properties) throws IOException, ParseException {
+    if (properties.enabled()) {
+      this.recording = new Recording(Configuration.getConfiguration(properties.settings()));
+      this.recording.setName("receiptprocessor");
+      this.recording.setToDisk(true);
+      this.recording.setMaxSize(properties.maxSize().toBytes());
+      this.recording.setMaxAge(properties.maxAge());
+      this.recording.enable(ReceiptDeserializationEvent.class);
+      this.recording.enable(ReceiptRuleEvent.class);
+      this.recording.enable(ReceiptScoreEvent.class);
+      this.recording.enable(ReceiptRepositoryEvent.class);
+      SENSITIVE_EVENTS.forEach(this.recording::disable);
+      this.recording.start();
+      log.info("Started continuous flight recording with settings [{}], max size [{}], max age [{}]",
+          properties.settings(), properties.maxSize(), properties.maxAge());
+    } else {
+      this.recording = null;
+    }
+  }
+
+  /**
+   * Writes the data recorded so far into a temporary file
+   *
+   * @return the path of the dump, or empty if the recording is not enabled
+   * @throws IOException if the dump could not be written
+   */
+  public Optional<Path> dump() throws IOException {
+    if (recording == null) {
+      return Optional.empty();
+    }
+    Path file = Files.createTempFile("receiptprocessor-", ".jfr");
+    recording.dump(file);
+    return Optional.of(file);
+  }
+
+  @Override
+  public void destroy() {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint under {@code /actuator/jfr} that dumps the {@link ContinuousRecording}
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+  private final ContinuousRecording continuousRecording;
+
+  public JfrRecordingEndpoint(ContinuousRecording continuousRecording) {
+    this.continuousRecording = continuousRecording;
+  }
+
+  /**
+   * Dump the continuous recording
+   *
+   * @return the recording as a .jfr file, or HTTP 404 if the recording is not enabled
+   * @throws IOException if the dump could not be written
+   */
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> dump() throws IOException {
+    return continuousRecording.dump()
+        .<WebEndpointResponse<Resource>>map(
+            file -> new WebEndpointResponse<>(new TemporaryFileResource(file)))
+        .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+  }
+
+  /**
+   * File resource that deletes the dump once it has been sent
+   */
+  private static final class TemporaryFileResource extends FileSystemResource {
+
+    private TemporaryFileResource(Path file) {
+      super(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return new FilterInputStream(super.getInputStream()) {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          Files.deleteIfExists(getFile().toPath());
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielvm.receiptprocessor.ReceiptDeserialization")
+@Label("Receipt Deserialization")
+@Category({"Receipt Processor", "Request"})
+@Description("Reading and binding a receipt from the request body")
+@StackTrace(false)
+public class ReceiptDeserializationEvent extends ReceiptEvent {
+
+}
@@ -0,0 +1,28 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import com.danielvm.receiptprocessor.dto.Receipt;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base type for flight recorder events that describe the receipt being processed
+ */
+public abstract class ReceiptEvent extends Event {
+
+  @Label("Retailer Length")
+  public int retailerLength;
+
+  @Label("Item Count")
+  public int itemCount;
+
+  /**
+   * Copies the size of the receipt into the event. Only call this once
+   * {@link #shouldCommit()} returned true so a disabled event costs nothing
+   *
+   * @param receipt the receipt being processed
+   */
+  public void describe(Receipt receipt) {
+    this.retailerLength = receipt.retailer() == null ? 0 : receipt.retailer().length();
+    this.itemCount = receipt.items() == null ? 0 : receipt.items().size();
+  }
+}
@@ -0,0 +1,25 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielvm.receiptprocessor.ReceiptRepository")
+@Label("Receipt Repository Call")
+@Category({"Receipt Processor", "Persistence"})
+@Description("A call to the receipt repository")
+@StackTrace(false)
+public class ReceiptRepositoryEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Receipt ID")
+  public long receiptId;
+
+  @Label("Points")
+  public int points;
+}
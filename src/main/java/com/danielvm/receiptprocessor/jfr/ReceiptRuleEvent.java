@@ -0,0 +1,21 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielvm.receiptprocessor.ReceiptRule")
+@Label("Receipt Rule")
+@Category({"Receipt Processor", "Scoring"})
+@Description("Evaluation of a single receipt rule")
+@StackTrace(false)
+public class ReceiptRuleEvent extends ReceiptEvent {
+
+  @Label("Rule")
+  public String rule;
+
+  @Label("Points")
+  public int points;
+}
@@ -0,0 +1,18 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.danielvm.receiptprocessor.ReceiptScore")
+@Label("Receipt Score")
+@Category({"Receipt Processor", "Scoring"})
+@Description("Evaluation of all receipt rules for a receipt")
+@StackTrace(false)
+public class ReceiptScoreEvent extends ReceiptEvent {
+
+  @Label("Points")
+  public int points;
+}
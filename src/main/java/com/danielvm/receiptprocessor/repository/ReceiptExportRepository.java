@@ -0,0 +1,86 @@
+package com.danielvm.receiptprocessor.repository;
+
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.dto.ReceiptExportFilter;
+import com.danielvm.receiptprocessor.service.ReceiptPartitionService;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads receipts for exports through a forward-only cursor, one batch of {@link #FETCH_SIZE}
+ * rows at a time, so that memory use does not depend on the number of receipts exported
+ */
+@Repository
+public class ReceiptExportRepository {
+
+  static final int FETCH_SIZE = 1_000;
+
+  // the ID and created_at of a partitioned receipt come from two clock readings a moment apart
+  private static final Duration CLOCK_SLACK = Duration.ofSeconds(2);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final PartitioningProperties partitioningProperties;
+
+  public ReceiptExportRepository(JdbcTemplate jdbcTemplate,
+      PartitioningProperties partitioningProperties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.partitioningProperties = partitioningProperties;
+  }
+
+  /**
+   * Streams the receipts matching the filter in ID order. The PostgreSQL driver only uses a cursor
+   * inside a transaction, so this must be called from one. With the partitioned schema a creation
+   * time range also bounds the IDs, so that only the partitions of that range are scanned
+   *
+   * @param filter  bounds of the export
+   * @param handler called for each receipt row, with columns id, points and created_at
+   */
+  public void streamReceipts(ReceiptExportFilter filter, RowCallbackHandler handler) {
+    StringBuilder sql = new StringBuilder("SELECT id, points, created_at FROM receipt WHERE TRUE");
+    List<Object> parameters = new ArrayList<>();
+    if (filter.fromId() != null) {
+      sql.append(" AND id >= ?");
+      parameters.add(filter.fromId());
+    }
+    if (filter.toId() != null) {
+      sql.append(" AND id <= ?");
+      parameters.add(filter.toId());
+    }
+    if (filter.createdFrom() != null) {
+      sql.append(" AND created_at >= ?");
+      parameters.add(filter.createdFrom());
+      if (partitioningProperties.enabled()) {
+        sql.append(" AND id >= ?");
+        parameters.add(ReceiptPartitionService.firstIdAt(
+            filter.createdFrom().toInstant().minus(CLOCK_SLACK)));
+      }
+    }
+    if (filter.createdBefore() != null) {
+      sql.append(" AND created_at < ?");
+      parameters.add(filter.createdBefore());
+      if (partitioningProperties.enabled()) {
+        sql.append(" AND id < ?");
+        parameters.add(ReceiptPartitionService.firstIdAt(
+            filter.createdBefore().toInstant().plus(CLOCK_SLACK)));
+      }
+    }
+    sql.append(" ORDER BY id");
+
+    jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(sql.toString(),
+          ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(FETCH_SIZE);
+      for (int i = 0; i < parameters.size(); i++) {
+        statement.setObject(i + 1, parameters.get(i));
+      }
+      return statement;
+    }, handler);
+  }
+}
@@ -0,0 +1,144 @@
+package com.danielvm.receiptprocessor.repository;
+
+import com.danielvm.receiptprocessor.entity.ReceiptPartition;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Manages the partitions of the receipt table. These statements are DDL, so they are not covered
+ * by {@link ReceiptRepository}
+ */
+@Repository
+public class ReceiptPartitionRepository {
+
+  private static final Pattern BOUNDS = Pattern.compile(
+      "FROM \\('?(-?\\d+)'?\\) TO \\('?(-?\\d+)'?\\)");
+
+  private static final Pattern PARTITION_NAME = Pattern.compile("receipt_p[a-z0-9_]+");
+
+  private static final String FIND_PARTITIONS = """
+      SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending
+      FROM pg_inherits i
+               JOIN pg_class c ON c.oid = i.inhrelid
+               JOIN pg_class p ON p.oid = i.inhparent
+      WHERE p.relname = 'receipt'
+        AND p.relnamespace = to_regnamespace(current_schema())
+      ORDER BY c.relname
+      """;
+
+  // key of the session level advisory lock held while partitions are maintained
+  private static final long MAINTENANCE_LOCK = "receipt partition maintenance".hashCode();
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ReceiptPartitionRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  private static String checkName(String name) {
+    if (!PARTITION_NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid receipt partition name [%s]".formatted(name));
+    }
+    return name;
+  }
+
+  /**
+   * Runs the work while holding the partition maintenance advisory lock. All statements of the
+   * work run on the connection that holds the lock, outside of a transaction, as
+   * {@code DETACH PARTITION ... CONCURRENTLY} requires
+   *
+   * @param work the maintenance to run
+   * @return false if another session holds the lock, in which case the work is skipped
+   */
+  public boolean runWithMaintenanceLock(Runnable work) {
+    DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(connection));
+    try {
+      if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+          "SELECT pg_try_advisory_lock(?)", Boolean.class, MAINTENANCE_LOCK))) {
+        return false;
+      }
+      try {
+        work.run();
+      } finally {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class,
+            MAINTENANCE_LOCK);
+      }
+      return true;
+    } finally {
+      TransactionSynchronizationManager.unbindResource(dataSource);
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Whether the receipt table is a partitioned table, as created by schema-partitioned.sql
+   *
+   * @return false if the table does not exist or is a plain table
+   */
+  public boolean isReceiptTablePartitioned() {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+        SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('receipt'))
+        """, Boolean.class));
+  }
+
+  /**
+   * Lists the range partitions currently attached to the receipt table
+   *
+   * @return the partitions ordered by name
+   */
+  public List<ReceiptPartition> findPartitions() {
+    return jdbcTemplate.query(FIND_PARTITIONS, (rs, rowNum) -> {
+      Matcher bounds = BOUNDS.matcher(rs.getString(2));
+      if (!bounds.find()) {
+        throw new IllegalStateException("Unexpected bounds [%s] for receipt partition [%s]"
+            .formatted(rs.getString(2), rs.getString(1)));
+      }
+      return new ReceiptPartition(rs.getString(1), Long.parseLong(bounds.group(1)),
+          Long.parseLong(bounds.group(2)), rs.getBoolean(3));
+    });
+  }
+
+  /**
+   * Creates a partition for receipts with IDs in [fromId, toId)
+   */
+  public void createPartition(String name, long fromId, long toId) {
+    jdbcTemplate.execute(
+        "CREATE TABLE IF NOT EXISTS %s PARTITION OF receipt FOR VALUES FROM (%d) TO (%d)"
+            .formatted(checkName(name), fromId, toId));
+  }
+
+  /**
+   * Detaches a partition without blocking inserts into the other partitions. Must not run inside
+   * a transaction
+   */
+  public void detachPartition(String name) {
+    jdbcTemplate.execute("ALTER TABLE receipt DETACH PARTITION %s CONCURRENTLY"
+        .formatted(checkName(name)));
+  }
+
+  /**
+   * Completes a concurrent detach that was interrupted
+   */
+  public void finalizeDetach(String name) {
+    jdbcTemplate.execute("ALTER TABLE receipt DETACH PARTITION %s FINALIZE"
+        .formatted(checkName(name)));
+  }
+
+  /**
+   * Drops a partition that is no longer attached to the receipt table
+   */
+  public void dropPartition(String name) {
+    jdbcTemplate.execute("DROP TABLE IF EXISTS %s".formatted(checkName(name)));
+  }
+}
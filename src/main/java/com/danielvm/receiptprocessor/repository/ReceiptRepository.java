@@ -1,10 +1,23 @@
 package com.danielvm.receiptprocessor.repository;
 
 import com.danielvm.receiptprocessor.entity.ReceiptEntity;
+import java.util.Optional;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ReceiptRepository extends CrudRepository<ReceiptEntity, Long> {
 
+  /**
+   * Same as {@link #findById(Object)}, but in a read-write transaction so it is always answered by
+   * the primary database, never by a read replica that may lag behind
+   *
+   * @param id the ID of the receipt
+   * @return the receipt, or empty if it does not exist on the primary either
+   */
+  @Transactional
+  @Query("SELECT id, points FROM receipt WHERE id = :id")
+  Optional<ReceiptEntity> findByIdOnPrimary(Long id);
 }
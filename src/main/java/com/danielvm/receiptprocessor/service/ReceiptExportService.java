@@ -0,0 +1,113 @@
+package com.danielvm.receiptprocessor.service;
+
+import com.danielvm.receiptprocessor.dto.ExportFormat;
+import com.danielvm.receiptprocessor.dto.ReceiptExportFilter;
+import com.danielvm.receiptprocessor.repository.ReceiptExportRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ReceiptExportService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReceiptExportService.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ReceiptExportRepository receiptExportRepository;
+
+  public ReceiptExportService(ReceiptExportRepository receiptExportRepository) {
+    this.receiptExportRepository = receiptExportRepository;
+  }
+
+  /**
+   * Writes the receipts matching the filter to the output stream as they are read from the
+   * database. The read-only transaction keeps the database cursor open, and lets a read replica
+   * serve the export
+   *
+   * @param filter bounds of the export
+   * @param format NDJSON or CSV
+   * @param output the stream to write to, flushed but not closed
+   * @throws IOException if writing to the output stream fails, or
+   *                     {@link InterruptedIOException} if the export was interrupted, e.g. because
+   *                     the request timed out, which releases the database cursor
+   */
+  @Transactional(readOnly = true)
+  public void export(ReceiptExportFilter filter, ExportFormat format, OutputStream output)
+      throws IOException {
+    Writer writer = new BufferedWriter(
+        new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    if (format == ExportFormat.CSV) {
+      writer.write("id,points,createdAt\n");
+    }
+    long[] exported = {0};
+    try {
+      receiptExportRepository.streamReceipts(filter, rs -> {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new UncheckedIOException(new InterruptedIOException(
+              "Export interrupted after %d receipt(s)".formatted(exported[0])));
+        }
+        long id = rs.getLong(1);
+        int points = rs.getInt(2);
+        boolean hasPoints = !rs.wasNull();
+        OffsetDateTime createdAt = rs.getObject(3, OffsetDateTime.class);
+        try {
+          if (format == ExportFormat.CSV) {
+            writeCsv(writer, id, hasPoints, points, createdAt);
+          } else {
+            writeNdjson(writer, id, hasPoints, points, createdAt);
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        exported[0]++;
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    log.info("Exported {} receipt(s) as {} with filter {}", exported[0], format, filter);
+  }
+
+  private static void writeCsv(Writer writer, long id, boolean hasPoints, int points,
+      OffsetDateTime createdAt) throws IOException {
+    writer.write(Long.toString(id));
+    writer.write(',');
+    if (hasPoints) {
+      writer.write(Integer.toString(points));
+    }
+    writer.write(',');
+    if (createdAt != null) {
+      writer.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(createdAt));
+    }
+    writer.write('\n');
+  }
+
+  private static void writeNdjson(Writer writer, long id, boolean hasPoints, int points,
+      OffsetDateTime createdAt) throws IOException {
+    writer.write("{\"id\":");
+    writer.write(Long.toString(id));
+    writer.write(",\"points\":");
+    writer.write(hasPoints ? Integer.toString(points) : "null");
+    writer.write(",\"createdAt\":");
+    if (createdAt != null) {
+      writer.write('"');
+      writer.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(createdAt));
+      writer.write('"');
+    } else {
+      writer.write("null");
+    }
+    writer.write("}\n");
+  }
+}
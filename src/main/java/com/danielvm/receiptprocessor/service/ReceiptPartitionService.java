@@ -0,0 +1,166 @@
+package com.danielvm.receiptprocessor.service;
+
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.entity.ReceiptPartition;
+import com.danielvm.receiptprocessor.repository.ReceiptPartitionRepository;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the time partitioned receipt table (schema-partitioned.sql) ready for inserts and within
+ * its retention period. Partitions are created ahead of time when the application starts and then
+ * periodically, so an insert never has to wait for one. Partitions past the retention period are
+ * detached concurrently and dropped, instead of deleting their rows. Instances coordinate through
+ * a PostgreSQL advisory lock.
+ */
+@Service
+@DependsOnDatabaseInitialization
+public class ReceiptPartitionService implements InitializingBean {
+
+  /**
+   * Number of low bits of a receipt ID that hold a sequence, the remaining bits hold the epoch
+   * second the receipt was created in
+   */
+  public static final int SEQUENCE_BITS = 20;
+
+  private static final Logger log = LoggerFactory.getLogger(ReceiptPartitionService.class);
+
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter
+      .ofPattern("yyyyMMdd_HHmmss").withZone(ZoneOffset.UTC);
+
+  private final ReceiptPartitionRepository partitionRepository;
+
+  private final PartitioningProperties properties;
+
+  public ReceiptPartitionService(ReceiptPartitionRepository partitionRepository,
+      PartitioningProperties properties) {
+    this.partitionRepository = partitionRepository;
+    this.properties = properties;
+  }
+
+  /**
+   * The lowest receipt ID that can be created at the given time
+   */
+  public static long firstIdAt(Instant instant) {
+    return instant.getEpochSecond() << SEQUENCE_BITS;
+  }
+
+  /**
+   * The second a receipt was created in, according to its ID
+   */
+  public static Instant creationTimeOf(long id) {
+    return Instant.ofEpochSecond(id >> SEQUENCE_BITS);
+  }
+
+  /**
+   * Creates the partitions before the application takes traffic
+   *
+   * @throws IllegalStateException if partitioning is enabled on an unpartitioned receipt table,
+   *                               which no later run could fix
+   */
+  @Override
+  public void afterPropertiesSet() {
+    if (properties.enabled() && !partitionRepository.isReceiptTablePartitioned()) {
+      throw new IllegalStateException("Partitioning is enabled but the receipt table is not "
+          + "partitioned. schema-partitioned.sql only applies to a new database, an existing "
+          + "receipt table has to be migrated by hand");
+    }
+    maintainPartitions();
+  }
+
+  /**
+   * Creates the upcoming partitions and removes the ones past the retention period. Only one
+   * instance maintains the partitions at a time, the others skip the run. Failures are logged and
+   * left to the next run, the partitions created ahead keep inserts working in the meantime
+   */
+  @Scheduled(cron = "${receiptprocessor.partitioning.cron:0 0 * * * *}")
+  public void maintainPartitions() {
+    if (!properties.enabled()) {
+      return;
+    }
+    try {
+      boolean maintained = partitionRepository.runWithMaintenanceLock(() -> {
+        Instant now = Instant.now();
+        createUpcomingPartitions(now);
+        removeExpiredPartitions(now);
+      });
+      if (!maintained) {
+        log.info("Receipt partitions are being maintained by another instance, skipping");
+      }
+    } catch (RuntimeException e) {
+      log.error("Receipt partition maintenance failed, retrying on the next run", e);
+    }
+  }
+
+  private void createUpcomingPartitions(Instant now) {
+    long interval = properties.interval().toSeconds();
+    long currentStart = now.getEpochSecond() - Math.floorMod(now.getEpochSecond(), interval);
+    List<ReceiptPartition> partitions = new ArrayList<>(partitionRepository.findPartitions());
+
+    for (int i = 0; i <= properties.premake(); i++) {
+      Instant from = Instant.ofEpochSecond(currentStart + i * interval);
+      long toId = firstIdAt(from.plusSeconds(interval));
+      // existing partitions may not line up with the interval, e.g. after it was changed
+      for (long[] gap : uncoveredRanges(partitions, firstIdAt(from), toId)) {
+        String name = "receipt_p" + PARTITION_SUFFIX.format(creationTimeOf(gap[0]));
+        partitionRepository.createPartition(name, gap[0], gap[1]);
+        partitions.add(new ReceiptPartition(name, gap[0], gap[1], false));
+        log.info("Created receipt partition [{}] starting at [{}]", name, creationTimeOf(gap[0]));
+      }
+    }
+  }
+
+  /**
+   * The parts of [fromId, toId) that no partition covers yet
+   */
+  private static List<long[]> uncoveredRanges(List<ReceiptPartition> partitions, long fromId,
+      long toId) {
+    List<long[]> gaps = new ArrayList<>();
+    long next = fromId;
+    List<ReceiptPartition> overlapping = partitions.stream()
+        .filter(p -> p.fromId() < toId && fromId < p.toId())
+        .sorted(Comparator.comparingLong(ReceiptPartition::fromId))
+        .toList();
+    for (ReceiptPartition partition : overlapping) {
+      if (partition.fromId() > next) {
+        gaps.add(new long[]{next, partition.fromId()});
+      }
+      next = Math.max(next, partition.toId());
+    }
+    if (next < toId) {
+      gaps.add(new long[]{next, toId});
+    }
+    return gaps;
+  }
+
+  private void removeExpiredPartitions(Instant now) {
+    long retainedFromId = firstIdAt(now.minus(properties.retention()));
+
+    for (ReceiptPartition partition : partitionRepository.findPartitions()) {
+      if (partition.toId() > retainedFromId) {
+        continue;
+      }
+      if (partition.detachPending()) {
+        partitionRepository.finalizeDetach(partition.name());
+      } else {
+        partitionRepository.detachPartition(partition.name());
+      }
+      log.info("Detached receipt partition [{}] with receipts created before [{}]",
+          partition.name(), creationTimeOf(partition.toId()));
+      if (properties.dropDetached()) {
+        partitionRepository.dropPartition(partition.name());
+        log.info("Dropped receipt partition [{}]", partition.name());
+      }
+    }
+  }
+}
@@ -1,16 +1,24 @@
 package com.danielvm.receiptprocessor.service;
 
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
 import com.danielvm.receiptprocessor.dto.PointsProcessResponse;
 import com.danielvm.receiptprocessor.dto.PointsResponse;
 import com.danielvm.receiptprocessor.dto.Receipt;
 import com.danielvm.receiptprocessor.entity.ReceiptEntity;
 import com.danielvm.receiptprocessor.exception.ReceiptNotFoundException;
+import com.danielvm.receiptprocessor.jfr.ReceiptRepositoryEvent;
+import com.danielvm.receiptprocessor.jfr.ReceiptRuleEvent;
+import com.danielvm.receiptprocessor.jfr.ReceiptScoreEvent;
 import com.danielvm.receiptprocessor.repository.ReceiptRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -126,15 +134,28 @@ public class ReceiptProcessingService {
     }
   };
 
-  private final List<ReceiptRule> rulesList = List.of(
-      alphanumericRule, noCentsRule, twentyFiveCentsRule, twoItemsRule,
-      itemDescriptionRule, purchaseDateRule, purchaseTimeRule
+  private final List<NamedRule> rulesList = List.of(
+      new NamedRule("alphanumeric", alphanumericRule),
+      new NamedRule("noCents", noCentsRule),
+      new NamedRule("twentyFiveCents", twentyFiveCentsRule),
+      new NamedRule("twoItems", twoItemsRule),
+      new NamedRule("itemDescription", itemDescriptionRule),
+      new NamedRule("purchaseDate", purchaseDateRule),
+      new NamedRule("purchaseTime", purchaseTimeRule)
   );
 
   private final ReceiptRepository receiptRepository;
 
-  public ReceiptProcessingService(ReceiptRepository receiptRepository) {
+  private final DataSourceRoutingProperties routingProperties;
+
+  private final PartitioningProperties partitioningProperties;
+
+  public ReceiptProcessingService(ReceiptRepository receiptRepository,
+      DataSourceRoutingProperties routingProperties,
+      PartitioningProperties partitioningProperties) {
     this.receiptRepository = receiptRepository;
+    this.routingProperties = routingProperties;
+    this.partitioningProperties = partitioningProperties;
   }
 
   private static int getDecimalPart(BigDecimal bigDecimal) {
@@ -150,14 +171,70 @@ public class ReceiptProcessingService {
    * @return the ID of the database object created
    */
   public PointsProcessResponse processReceipt(Receipt receipt) {
-    int points = rulesList.stream()
-        .mapToInt(r -> r.apply(receipt)).sum(); // apply all rules to the receipt
-    log.info("Total point(s) for receipt for retailer [{}] are: {} points", receipt.retailer(),
-        points);
+    int points = calculatePoints(receipt);
+
+    var repositoryEvent = new ReceiptRepositoryEvent();
+    repositoryEvent.begin();
     var createdEntity = receiptRepository.save(new ReceiptEntity(null, points));
+    repositoryEvent.end();
+    if (repositoryEvent.shouldCommit()) {
+      repositoryEvent.operation = "save";
+      repositoryEvent.receiptId = createdEntity.id();
+      repositoryEvent.points = points;
+      repositoryEvent.commit();
+    }
     return new PointsProcessResponse(createdEntity.id());
   }
 
+  /**
+   * Subject a receipt to all the rules defined above, without saving it
+   *
+   * @param receipt the receipt object
+   * @return the total points of the receipt
+   */
+  public int calculatePoints(Receipt receipt) {
+    return calculatePoints(receipt, true);
+  }
+
+  /**
+   * Subject a receipt to all the rules defined above, without saving it
+   *
+   * @param receipt      the receipt object
+   * @param recordEvents false for synthetic receipts, which must not show up in flight recordings
+   * @return the total points of the receipt
+   */
+  public int calculatePoints(Receipt receipt, boolean recordEvents) {
+    var scoreEvent = new ReceiptScoreEvent();
+    scoreEvent.begin();
+    int points = 0;
+    for (NamedRule rule : rulesList) {
+      points += applyRule(rule, receipt, recordEvents); // apply all rules to the receipt
+    }
+    scoreEvent.end();
+    if (recordEvents && scoreEvent.shouldCommit()) {
+      scoreEvent.describe(receipt);
+      scoreEvent.points = points;
+      scoreEvent.commit();
+    }
+    log.info("Total point(s) for receipt for retailer [{}] are: {} points", receipt.retailer(),
+        points);
+    return points;
+  }
+
+  private static int applyRule(NamedRule rule, Receipt receipt, boolean recordEvent) {
+    var event = new ReceiptRuleEvent();
+    event.begin();
+    int points = rule.rule().apply(receipt);
+    event.end();
+    if (recordEvent && event.shouldCommit()) {
+      event.describe(receipt);
+      event.rule = rule.name();
+      event.points = points;
+      event.commit();
+    }
+    return points;
+  }
+
   /**
    * Retrieves the points of a receipt based on a given ID
    *
@@ -166,7 +243,11 @@ public class ReceiptProcessingService {
    * @throws ReceiptNotFoundException if no matching receipt is found
    */
   public PointsResponse getPoints(Long id) {
-    var receipt = receiptRepository.findById(id);
+    var receipt = findReceipt(id, false);
+    if (receipt.isEmpty() && mayNotBeReplicatedYet(id)) {
+      // read replicas lag behind, a receipt created moments ago may only be on the primary yet
+      receipt = findReceipt(id, true);
+    }
     if (receipt.isPresent()) {
       return new PointsResponse(receipt.get().points());
     } else {
@@ -174,6 +255,39 @@ public class ReceiptProcessingService {
     }
   }
 
+  /**
+   * Whether a receipt that was not found could still be on its way to the replicas. Without
+   * replicas it was already looked up on the primary. With the partitioned schema the ID tells
+   * when the receipt was created. Serial IDs tell nothing, they are handed out on insert but
+   * committed in any order, so every miss is looked up again
+   */
+  private boolean mayNotBeReplicatedYet(Long id) {
+    if (routingProperties.replicas().isEmpty()) {
+      return false;
+    }
+    if (partitioningProperties.enabled()) {
+      Duration age = Duration.between(ReceiptPartitionService.creationTimeOf(id), Instant.now());
+      return age.abs().compareTo(routingProperties.maxReplicaLag()) <= 0;
+    }
+    return true;
+  }
+
+  private Optional<ReceiptEntity> findReceipt(Long id, boolean onPrimary) {
+    var repositoryEvent = new ReceiptRepositoryEvent();
+    repositoryEvent.begin();
+    var receipt = onPrimary
+        ? receiptRepository.findByIdOnPrimary(id)
+        : receiptRepository.findById(id);
+    repositoryEvent.end();
+    if (repositoryEvent.shouldCommit()) {
+      repositoryEvent.operation = onPrimary ? "findByIdOnPrimary" : "findById";
+      repositoryEvent.receiptId = id;
+      repositoryEvent.points = receipt.map(ReceiptEntity::points).orElse(0);
+      repositoryEvent.commit();
+    }
+    return receipt;
+  }
+
   /**
    * Interface to better express each rule individually
    */
@@ -182,4 +296,11 @@ public class ReceiptProcessingService {
 
     int apply(Receipt receipt);
   }
+
+  /**
+   * A rule together with the name it is reported under in flight recordings
+   */
+  private record NamedRule(String name, ReceiptRule rule) {
+
+  }
 }
@@ -0,0 +1,26 @@
+package com.danielvm.receiptprocessor.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until the {@link WarmupRunner} has finished. Part of the readiness
+ * health group, so no traffic is routed to the application while it is still cold
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+  private volatile boolean finished;
+
+  void markFinished() {
+    this.finished = true;
+  }
+
+  @Override
+  public Health health() {
+    return finished
+        ? Health.up().build()
+        : Health.outOfService().withDetail("reason", "warm-up in progress").build();
+  }
+}
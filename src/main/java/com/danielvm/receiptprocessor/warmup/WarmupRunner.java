@@ -0,0 +1,192 @@
+package com.danielvm.receiptprocessor.warmup;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.MDCFilter;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.danielvm.receiptprocessor.config.WarmupProperties;
+import com.danielvm.receiptprocessor.dto.Item;
+import com.danielvm.receiptprocessor.dto.PointsProcessResponse;
+import com.danielvm.receiptprocessor.dto.PointsResponse;
+import com.danielvm.receiptprocessor.dto.Receipt;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import com.danielvm.receiptprocessor.service.ReceiptProcessingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a synthetic workload through the request path before the application reports ready:
+ * Jackson binding of {@link Receipt}, the receipt rules and a read-only database lookup. Nothing
+ * is written to the database. Spring Boot only switches readiness to ACCEPTING_TRAFFIC once all
+ * runners have completed, so the first real requests hit compiled code and open connections.
+ * The synthetic receipts run with the production log levels, their log events are dropped by an
+ * MDC filter, and they are not recorded as flight recorder events.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+  private static final int SYNTHETIC_RECEIPTS = 32;
+
+  // no receipt has a negative ID, the lookup never finds anything
+  private static final long MISSING_RECEIPT_ID = -1L;
+
+  // MDC key marking the log events of synthetic receipts
+  static final String WARMUP_MDC_KEY = "receiptprocessor.warmup";
+
+  private final WarmupProperties properties;
+
+  private final ObjectMapper objectMapper;
+
+  private final ReceiptProcessingService receiptProcessingService;
+
+  private final ReceiptRepository receiptRepository;
+
+  private final DataSource dataSource;
+
+  private final WarmupHealthIndicator warmupHealthIndicator;
+
+  public WarmupRunner(WarmupProperties properties, ObjectMapper objectMapper,
+      ReceiptProcessingService receiptProcessingService, ReceiptRepository receiptRepository,
+      DataSource dataSource, WarmupHealthIndicator warmupHealthIndicator) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.receiptProcessingService = receiptProcessingService;
+    this.receiptRepository = receiptRepository;
+    this.dataSource = dataSource;
+    this.warmupHealthIndicator = warmupHealthIndicator;
+  }
+
+  /**
+   * A receipt that varies with i, so that every rule takes both of its branches
+   */
+  private static Receipt syntheticReceipt(int i) {
+    List<Item> items = IntStream.range(0, i % 6)
+        .mapToObj(j -> new Item("Warm-up item " + "x".repeat(j),
+            BigDecimal.valueOf(99 + 131L * i + j, 2)))
+        .toList();
+    return new Receipt(
+        "Warm-up & Co " + i,
+        LocalDate.of(2024, 1, 1 + i % 28),
+        LocalTime.of(12 + i % 6, (i * 7) % 60),
+        items,
+        BigDecimal.valueOf(i % 4 == 0 ? 100L * i : 1_000L + 13L * i, 2));
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    if (properties.enabled()) {
+      long start = System.nanoTime();
+      warmUpScoring();
+      warmUpDatabase();
+      log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+    warmupHealthIndicator.markFinished();
+  }
+
+  private void warmUpScoring() throws IOException {
+    List<byte[]> payloads = new ArrayList<>(SYNTHETIC_RECEIPTS);
+    for (int i = 0; i < SYNTHETIC_RECEIPTS; i++) {
+      payloads.add(objectMapper.writeValueAsBytes(syntheticReceipt(i)));
+    }
+
+    // the rules log every decision, which would flood the logs with synthetic receipts. The log
+    // levels stay as configured, so the JIT sees the same branches as for real receipts
+    TurboFilter warmupFilter = dropWarmupLogEvents();
+    MDC.put(WARMUP_MDC_KEY, "true");
+    try {
+      for (int i = 0; i < properties.iterations(); i++) {
+        Receipt receipt = objectMapper.readValue(payloads.get(i % SYNTHETIC_RECEIPTS),
+            Receipt.class);
+        int points = receiptProcessingService.calculatePoints(receipt, false);
+        objectMapper.writeValueAsBytes(new PointsResponse(points));
+        objectMapper.writeValueAsBytes(new PointsProcessResponse((long) i));
+      }
+    } finally {
+      MDC.remove(WARMUP_MDC_KEY);
+      if (warmupFilter != null) {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList()
+            .remove(warmupFilter);
+      }
+    }
+  }
+
+  /**
+   * Adds a filter that drops the log events of the threads marked with {@link #WARMUP_MDC_KEY}
+   *
+   * @return the filter, or null if logging does not go through Logback
+   */
+  private static TurboFilter dropWarmupLogEvents() {
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+      return null;
+    }
+    MDCFilter filter = new MDCFilter();
+    filter.setMDCKey(WARMUP_MDC_KEY);
+    filter.setValue("true");
+    filter.setOnMatch(FilterReply.DENY.name());
+    filter.setContext(loggerContext);
+    filter.start();
+    loggerContext.addTurboFilter(filter);
+    return filter;
+  }
+
+  /**
+   * Sends the lookups from as many threads as the connection pool holds, so that every pooled
+   * connection gets opened and prepares the statements
+   */
+  private void warmUpDatabase() {
+    int roundTrips = properties.databaseRoundTrips();
+    int threads = Math.max(1, Math.min(maximumPoolSize(), roundTrips));
+    List<Callable<Void>> lookups = IntStream.range(0, threads)
+        .<Callable<Void>>mapToObj(t -> () -> {
+          // spread the round trips, the first threads take the remainder
+          for (int i = t; i < roundTrips; i += threads) {
+            // read replica first, then the primary, like getPoints does for unknown receipts
+            receiptRepository.findById(MISSING_RECEIPT_ID);
+            receiptRepository.findByIdOnPrimary(MISSING_RECEIPT_ID);
+          }
+          return null;
+        })
+        .toList();
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (Future<Void> lookup : executor.invokeAll(lookups)) {
+        lookup.get();
+      }
+    } catch (ExecutionException e) {
+      log.warn("Database warm-up failed, continuing with cold connections", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private int maximumPoolSize() {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class)
+          ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+          : 1;
+    } catch (SQLException e) {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+-- Receipt IDs carry the second they were created in in their high bits (epoch second << 20 | sequence),
+-- so a range of IDs is a range of creation time. The table is range partitioned by ID, which makes
+-- partitions time based and lets lookups by ID prune down to a single partition.
+-- Partitions are created ahead of time and dropped after the retention period by ReceiptPartitionService.
+CREATE SEQUENCE IF NOT EXISTS receipt_id_seq;
+
+CREATE TABLE IF NOT EXISTS receipt
+(
+    id         BIGINT      NOT NULL DEFAULT ((floor(extract(EPOCH FROM clock_timestamp()))::BIGINT << 20)
+        | (nextval('receipt_id_seq') & 1048575)),
+    points     INTEGER,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp(),
+    PRIMARY KEY (id)
+) PARTITION BY RANGE (id);
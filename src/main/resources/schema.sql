@@ -1,4 +1,26 @@
 CREATE TABLE IF NOT EXISTS receipt(
     id serial PRIMARY KEY,
-    points INTEGER
-);
\ No newline at end of file
+    points INTEGER,
+    created_at TIMESTAMPTZ DEFAULT now()
+);
+-- Receipts saved before created_at was added keep an unknown (null) creation time. ALTER TABLE
+-- locks the table even when there is nothing to change, so it only runs when the column is missing.
+-- The block is single quoted because the script is split on semicolons outside of quotes
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = ''receipt''
+                     AND column_name = ''created_at'') THEN
+        ALTER TABLE receipt ADD COLUMN created_at TIMESTAMPTZ;
+        ALTER TABLE receipt ALTER COLUMN created_at SET DEFAULT now();
+    END IF;
+END';
+-- Exports filtered by creation time. Same reasoning: CREATE INDEX locks the table before it checks
+-- IF NOT EXISTS, so the index is only created when it is missing
+DO '
+BEGIN
+    IF to_regclass(''receipt_created_at_idx'') IS NULL THEN
+        CREATE INDEX receipt_created_at_idx ON receipt (created_at);
+    END IF;
+END';
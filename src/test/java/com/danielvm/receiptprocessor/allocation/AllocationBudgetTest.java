@@ -0,0 +1,241 @@
+package com.danielvm.receiptprocessor.allocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.ExportProperties;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.controller.ReceiptController;
+import com.danielvm.receiptprocessor.dto.Receipt;
+import com.danielvm.receiptprocessor.entity.ReceiptEntity;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import com.danielvm.receiptprocessor.service.ReceiptExportService;
+import com.danielvm.receiptprocessor.service.ReceiptProcessingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+/**
+ * Fails when one of the hot paths allocates more bytes per call than its budget in
+ * {@code allocation-budgets.properties}. Allocation is measured on the calling thread with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, after a warm-up so the
+ * numbers reflect JIT-compiled code. Logging goes to a fixed file appender at the production level
+ * ({@code logback-allocation.xml}), so the budgets do not depend on the console.
+ */
+@WebMvcTest(ReceiptController.class)
+@TestPropertySource(properties = "logging.config=classpath:logback-allocation.xml")
+@Import(ReceiptProcessingService.class)
+@EnableConfigurationProperties({ExportProperties.class, DataSourceRoutingProperties.class,
+    PartitioningProperties.class})
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class AllocationBudgetTest {
+
+  private static final Logger log = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static final Properties budgets = new Properties();
+
+  private static byte[] receiptJson;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ReceiptProcessingService receiptProcessingService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockBean
+  private ReceiptExportService receiptExportService;
+
+  @BeforeAll
+  static void loadBudgets() throws Exception {
+    try (var in = new ClassPathResource("allocation-budgets.properties").getInputStream()) {
+      budgets.load(in);
+    }
+    receiptJson = new ClassPathResource("__files/receipt.json").getContentAsByteArray();
+  }
+
+  @Test
+  void process_receipt_should_stay_within_allocation_budget() throws Exception {
+    // given: a valid receipt and a repository that does no work
+    Receipt receipt = objectMapper.readValue(receiptJson, Receipt.class);
+
+    // when: the receipt is processed many times
+    long allocated = bytesPerCall(5_000, 1_000,
+        () -> receiptProcessingService.processReceipt(receipt));
+
+    // then: the allocation per call is within budget
+    assertWithinBudget("service.processReceipt", allocated);
+  }
+
+  @Test
+  void get_points_should_stay_within_allocation_budget() throws Exception {
+    // when: points are retrieved many times
+    long allocated = bytesPerCall(20_000, 10_000,
+        () -> receiptProcessingService.getPoints(1L));
+
+    // then: the allocation per call is within budget
+    assertWithinBudget("service.getPoints", allocated);
+  }
+
+  @Test
+  void process_receipt_endpoint_should_stay_within_allocation_budget() throws Exception {
+    // when: the receipt is posted many times
+    long allocated = bytesPerCall(1_000, 200, () -> mockMvc.perform(
+            MockMvcRequestBuilders.post("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(receiptJson))
+        .andExpect(MockMvcResultMatchers.status().isOk()));
+
+    // then: the allocation per request is within budget
+    assertWithinBudget("controller.processReceipt", allocated);
+  }
+
+  @Test
+  void get_points_endpoint_should_stay_within_allocation_budget() throws Exception {
+    // when: the points are requested many times
+    long allocated = bytesPerCall(1_000, 200, () -> mockMvc.perform(
+            MockMvcRequestBuilders.get("/receipts/{id}/points", 1L))
+        .andExpect(MockMvcResultMatchers.status().isOk()));
+
+    // then: the allocation per request is within budget
+    assertWithinBudget("controller.getPoints", allocated);
+  }
+
+  private static long bytesPerCall(int warmupCalls, int measuredCalls, Call call)
+      throws Exception {
+    for (int i = 0; i < warmupCalls; i++) {
+      call.run();
+    }
+    long threadId = Thread.currentThread().threadId();
+    long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < measuredCalls; i++) {
+      call.run();
+    }
+    long after = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+    return (after - before) / measuredCalls;
+  }
+
+  private static void assertWithinBudget(String path, long allocated) {
+    long budget = Long.parseLong(budgets.getProperty(path));
+    log.info("Allocation budget [{}]: {} of {} bytes per call", path, allocated, budget);
+    assertThat(allocated)
+        .as("bytes allocated per call of [%s], budget %d", path, budget)
+        .isLessThanOrEqualTo(budget);
+  }
+
+  @FunctionalInterface
+  private interface Call {
+
+    void run() throws Exception;
+  }
+
+  @TestConfiguration
+  static class StubRepositoryConfiguration {
+
+    @Bean
+    ReceiptRepository receiptRepository() {
+      return new StubReceiptRepository();
+    }
+  }
+
+  /**
+   * Repository that returns pre-built entities, so that only the allocation of the code under
+   * test is measured. A Mockito mock records every invocation and would dominate the numbers.
+   */
+  static class StubReceiptRepository implements ReceiptRepository {
+
+    private static final ReceiptEntity ENTITY = new ReceiptEntity(1L, 28);
+
+    private static final Optional<ReceiptEntity> FOUND = Optional.of(ENTITY);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends ReceiptEntity> S save(S entity) {
+      return (S) ENTITY;
+    }
+
+    @Override
+    public <S extends ReceiptEntity> Iterable<S> saveAll(Iterable<S> entities) {
+      List<S> saved = new ArrayList<>();
+      entities.forEach(e -> saved.add(save(e)));
+      return saved;
+    }
+
+    @Override
+    public Optional<ReceiptEntity> findById(Long id) {
+      return FOUND;
+    }
+
+    @Override
+    public Optional<ReceiptEntity> findByIdOnPrimary(Long id) {
+      return FOUND;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+      return true;
+    }
+
+    @Override
+    public Iterable<ReceiptEntity> findAll() {
+      return List.of(ENTITY);
+    }
+
+    @Override
+    public Iterable<ReceiptEntity> findAllById(Iterable<Long> ids) {
+      return List.of(ENTITY);
+    }
+
+    @Override
+    public long count() {
+      return 1;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+    }
+
+    @Override
+    public void delete(ReceiptEntity entity) {
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends ReceiptEntity> entities) {
+    }
+
+    @Override
+    public void deleteAll() {
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.danielvm.receiptprocessor.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributorRegistry;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Two independent databases stand in for a primary and its read replica. They are not replicated,
+ * so a row present in only one of them shows which database answered the request
+ */
+@Testcontainers
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReadReplicaRoutingTest {
+
+  @Container
+  static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(
+      DockerImageName.parse("postgres:latest"))
+      .withDatabaseName("receipt")
+      .withUsername("username")
+      .withPassword("password");
+
+  @Container
+  static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(
+      DockerImageName.parse("postgres:latest"))
+      .withDatabaseName("receipt")
+      .withUsername("username")
+      .withPassword("password");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private HealthContributorRegistry healthContributorRegistry;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @DynamicPropertySource
+  static void registerProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", primary::getJdbcUrl);
+    registry.add("spring.datasource.username", primary::getUsername);
+    registry.add("spring.datasource.password", primary::getPassword);
+    registry.add("receiptprocessor.datasource.replicas[0].url", replica::getJdbcUrl);
+  }
+
+  @BeforeAll
+  static void createReplicaSchema() throws Exception {
+    jdbcTemplate(replica).execute(
+        new ClassPathResource("schema.sql").getContentAsString(StandardCharsets.UTF_8));
+  }
+
+  @AfterAll
+  static void stopDatabases() {
+    primary.stop();
+    replica.stop();
+  }
+
+  private static JdbcTemplate jdbcTemplate(PostgreSQLContainer<?> container) {
+    return new JdbcTemplate(new DriverManagerDataSource(container.getJdbcUrl(),
+        container.getUsername(), container.getPassword()));
+  }
+
+  @Test
+  void should_read_points_from_replica() throws Exception {
+    // given: a receipt with different points on the primary and on the replica
+    jdbcTemplate(primary).update("INSERT INTO receipt(id, points) VALUES (1000, 1)");
+    jdbcTemplate(replica).update("INSERT INTO receipt(id, points) VALUES (1000, 2)");
+
+    // when: the points are requested
+    var response = mockMvc.perform(MockMvcRequestBuilders.get("/receipts/{id}/points", 1000));
+
+    // then: the points are read from the replica
+    response.andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+    response.andExpect(jsonPath("$.points", is(2)));
+  }
+
+  @Test
+  void should_write_to_primary_and_read_own_write() throws Exception {
+    // given: a valid receipt
+    byte[] receipt = new ClassPathResource("__files/receipt.json").getContentAsByteArray();
+
+    // when: the receipt is processed
+    var processed = mockMvc.perform(MockMvcRequestBuilders.post("/receipts/process")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(receipt))
+        .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+        .andReturn();
+    JsonNode body = objectMapper.readTree(processed.getResponse().getContentAsByteArray());
+    long id = body.get("id").asLong();
+
+    // then: the receipt is written to the primary only
+    assertThat(jdbcTemplate(primary).queryForObject(
+        "SELECT count(*) FROM receipt WHERE id = ?", Integer.class, id)).isEqualTo(1);
+    assertThat(jdbcTemplate(replica).queryForObject(
+        "SELECT count(*) FROM receipt WHERE id = ?", Integer.class, id)).isZero();
+
+    // and: its points can be read right away, from the primary
+    mockMvc.perform(MockMvcRequestBuilders.get("/receipts/{id}/points", id))
+        .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+        .andExpect(jsonPath("$.points", is(28)));
+  }
+
+  @Test
+  void should_report_health_and_metrics_of_replica_pool() throws Exception {
+    // given: a read served by the replica
+    mockMvc.perform(MockMvcRequestBuilders.get("/receipts/{id}/points", 1000));
+
+    // when: the health contributors and the meters are looked up
+    var replicas = (CompositeHealthContributor) healthContributorRegistry
+        .getContributor("replicas");
+
+    // then: the replica pool has its own health indicator and pool metrics
+    assertThat(replicas.getContributor("replica-0")).isNotNull();
+    assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica-0").gauge())
+        .isNotNull();
+    assertThat(meterRegistry.find("jdbc.connections.max").tag("name", "replica-0").gauge())
+        .isNotNull();
+  }
+}
@@ -0,0 +1,154 @@
+package com.danielvm.receiptprocessor.integration;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@Testcontainers
+@AutoConfigureMockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptExportTest {
+
+  // Test containers setup for PostgresQL
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(
+      DockerImageName.parse("postgres:latest"))
+      .withDatabaseName("receipt")
+      .withUsername("username")
+      .withPassword("password");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @DynamicPropertySource
+  static void registerProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url",
+        () -> "jdbc:postgresql://localhost:" + postgreSQLContainer.getFirstMappedPort() + "/"
+            + postgreSQLContainer.getDatabaseName());
+    registry.add("spring.datasource.username", () -> postgreSQLContainer.getUsername());
+    registry.add("spring.datasource.password", () -> postgreSQLContainer.getPassword());
+  }
+
+  @BeforeAll
+  static void insertReceipts() {
+    // the application context, and with it schema.sql, only starts after @BeforeAll
+    var jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+        postgreSQLContainer.getJdbcUrl(), postgreSQLContainer.getUsername(),
+        postgreSQLContainer.getPassword()));
+    jdbcTemplate.execute("""
+        CREATE TABLE IF NOT EXISTS receipt
+        (
+            id serial PRIMARY KEY,
+            points INTEGER,
+            created_at TIMESTAMPTZ DEFAULT now()
+        )""");
+    jdbcTemplate.update("""
+        INSERT INTO receipt(id, points, created_at)
+        VALUES (1, 28, '2024-07-01T10:00:00Z'),
+               (2, 12, '2024-07-02T10:00:00Z'),
+               (3, NULL, '2024-07-03T10:00:00Z'),
+               (4, 109, '2024-07-04T10:00:00Z'),
+               (5, 40, NULL)""");
+  }
+
+  @AfterAll
+  static void stopDatabase() {
+    postgreSQLContainer.stop();
+  }
+
+  private MvcResult export(RequestBuilder request) throws Exception {
+    MvcResult started = mockMvc.perform(request)
+        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+        .andReturn();
+    return mockMvc.perform(asyncDispatch(started))
+        .andDo(MockMvcResultHandlers.print())
+        .andReturn();
+  }
+
+  @Test
+  void should_export_all_receipts_as_ndjson() throws Exception {
+    // when: all receipts are exported without a format
+    var result = export(MockMvcRequestBuilders.get("/receipts/export"));
+
+    // then: there is one JSON document per receipt, in ID order, without a creation time for
+    // receipts saved before it was recorded
+    MockMvcResultMatchers.status().isOk().match(result);
+    MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON).match(result);
+    MockMvcResultMatchers.content().string("""
+        {"id":1,"points":28,"createdAt":"2024-07-01T10:00:00Z"}
+        {"id":2,"points":12,"createdAt":"2024-07-02T10:00:00Z"}
+        {"id":3,"points":null,"createdAt":"2024-07-03T10:00:00Z"}
+        {"id":4,"points":109,"createdAt":"2024-07-04T10:00:00Z"}
+        {"id":5,"points":40,"createdAt":null}
+        """).match(result);
+  }
+
+  @Test
+  void should_export_receipts_in_creation_range_as_csv() throws Exception {
+    // when: receipts created on July 2nd and 3rd are exported as CSV
+    var result = export(MockMvcRequestBuilders.get("/receipts/export")
+        .param("format", "csv")
+        .param("createdFrom", "2024-07-02T00:00:00Z")
+        .param("createdBefore", "2024-07-04T00:00:00Z"));
+
+    // then: only those receipts are exported, after a header
+    MockMvcResultMatchers.status().isOk().match(result);
+    MockMvcResultMatchers.content().string("""
+        id,points,createdAt
+        2,12,2024-07-02T10:00:00Z
+        3,,2024-07-03T10:00:00Z
+        """).match(result);
+  }
+
+  @Test
+  void should_export_receipts_in_id_range() throws Exception {
+    // when: receipts with IDs 2 to 3 are exported
+    var result = export(MockMvcRequestBuilders.get("/receipts/export")
+        .param("fromId", "2")
+        .param("toId", "3"));
+
+    // then: only those receipts are exported
+    MockMvcResultMatchers.content().string("""
+        {"id":2,"points":12,"createdAt":"2024-07-02T10:00:00Z"}
+        {"id":3,"points":null,"createdAt":"2024-07-03T10:00:00Z"}
+        """).match(result);
+  }
+
+  @Test
+  void should_reject_unknown_export_format() throws Exception {
+    // when: an unsupported format is requested
+    var response = mockMvc.perform(MockMvcRequestBuilders.get("/receipts/export")
+        .param("format", "xml"));
+
+    // then: the request is rejected with the corresponding error message
+    response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    response.andExpect(jsonPath("$.message",
+        is("Export format [xml] is not supported, use 'ndjson' or 'csv'")));
+    response.andExpect(jsonPath("$.httpStatus", is("BAD_REQUEST")));
+  }
+}
@@ -0,0 +1,158 @@
+package com.danielvm.receiptprocessor.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.danielvm.receiptprocessor.dto.ReceiptExportFilter;
+import com.danielvm.receiptprocessor.entity.ReceiptEntity;
+import com.danielvm.receiptprocessor.entity.ReceiptPartition;
+import com.danielvm.receiptprocessor.repository.ReceiptExportRepository;
+import com.danielvm.receiptprocessor.repository.ReceiptPartitionRepository;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import com.danielvm.receiptprocessor.service.ReceiptPartitionService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@Testcontainers
+@ActiveProfiles("partitioned")
+@SpringBootTest
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptPartitionTest {
+
+  // Test containers setup for PostgresQL
+  @Container
+  static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(
+      DockerImageName.parse("postgres:latest"))
+      .withDatabaseName("receipt")
+      .withUsername("username")
+      .withPassword("password");
+
+  @Autowired
+  private ReceiptRepository receiptRepository;
+
+  @Autowired
+  private ReceiptPartitionRepository partitionRepository;
+
+  @Autowired
+  private ReceiptPartitionService partitionService;
+
+  @Autowired
+  private ReceiptExportRepository exportRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void registerProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url",
+        () -> "jdbc:postgresql://localhost:" + postgreSQLContainer.getFirstMappedPort() + "/"
+            + postgreSQLContainer.getDatabaseName());
+    registry.add("spring.datasource.username", () -> postgreSQLContainer.getUsername());
+    registry.add("spring.datasource.password", () -> postgreSQLContainer.getPassword());
+    registry.add("receiptprocessor.partitioning.premake", () -> 3);
+    registry.add("receiptprocessor.partitioning.retention", () -> "30d");
+  }
+
+  @AfterAll
+  static void stopDatabase() {
+    postgreSQLContainer.stop();
+  }
+
+  @Test
+  void should_create_partitions_ahead_on_startup() {
+    // given: the application started with the partitioned profile
+    long now = ReceiptPartitionService.firstIdAt(Instant.now());
+
+    // when: the partitions are listed
+    List<ReceiptPartition> partitions = partitionRepository.findPartitions();
+
+    // then: the current partition and the 3 following ones exist
+    assertThat(partitions).hasSizeGreaterThanOrEqualTo(4);
+    assertThat(partitions).anySatisfy(p -> {
+      assertThat(p.fromId()).isLessThanOrEqualTo(now);
+      assertThat(p.toId()).isGreaterThan(now);
+    });
+    assertThat(partitions).anySatisfy(p -> assertThat(p.fromId())
+        .isGreaterThan(ReceiptPartitionService.firstIdAt(Instant.now().plus(Duration.ofDays(2)))));
+  }
+
+  @Test
+  void should_assign_time_based_ids_and_prune_lookups_by_id() {
+    // given: a receipt saved just now
+    Instant before = Instant.now().minusSeconds(1);
+    var saved = receiptRepository.save(new ReceiptEntity(null, 42));
+
+    // then: its ID encodes its creation time
+    assertThat(ReceiptPartitionService.creationTimeOf(saved.id()))
+        .isBetween(before, Instant.now().plusSeconds(1));
+
+    // and: it can be found by ID
+    assertThat(receiptRepository.findById(saved.id())).hasValue(saved);
+
+    // and: a lookup by ID only scans the partition that holds it
+    String plan = String.join("\n", jdbcTemplate.queryForList(
+        "EXPLAIN SELECT points FROM receipt WHERE id = " + saved.id(), String.class));
+    long scannedPartitions = partitionRepository.findPartitions().stream()
+        .filter(p -> plan.contains(p.name()))
+        .count();
+    assertThat(scannedPartitions).isEqualTo(1);
+  }
+
+  @Test
+  void should_drop_partitions_past_retention() {
+    // given: a partition with receipts created 60 days ago, past the 30 days of retention
+    Instant start = Instant.now().minus(Duration.ofDays(60));
+    partitionRepository.createPartition("receipt_p_expired",
+        ReceiptPartitionService.firstIdAt(start),
+        ReceiptPartitionService.firstIdAt(start.plus(Duration.ofDays(1))));
+    jdbcTemplate.update("INSERT INTO receipt(id, points) VALUES (?, 10)",
+        ReceiptPartitionService.firstIdAt(start));
+
+    // when: the partitions are maintained
+    partitionService.maintainPartitions();
+
+    // then: the expired partition is detached and dropped along with its receipts
+    assertThat(partitionRepository.findPartitions())
+        .noneMatch(p -> p.name().equals("receipt_p_expired"));
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT to_regclass('receipt_p_expired')::text", String.class)).isNull();
+    assertThat(receiptRepository.findById(ReceiptPartitionService.firstIdAt(start))).isEmpty();
+  }
+
+  @Test
+  void should_export_receipts_by_creation_time_within_id_bounds() {
+    // given: a receipt saved just now, and its creation time
+    var saved = receiptRepository.save(new ReceiptEntity(null, 7));
+    OffsetDateTime createdAt = jdbcTemplate.queryForObject(
+        "SELECT created_at FROM receipt WHERE id = ?", OffsetDateTime.class, saved.id());
+
+    // when: the receipts created in the microsecond it was created in are exported
+    List<Long> exported = new ArrayList<>();
+    transactionTemplate.executeWithoutResult(status -> exportRepository.streamReceipts(
+        new ReceiptExportFilter(null, null, createdAt, createdAt.plusNanos(1_000)),
+        rs -> exported.add(rs.getLong(1))));
+
+    // then: the ID bounds derived from the creation time still include it
+    assertThat(exported).containsExactly(saved.id());
+  }
+}
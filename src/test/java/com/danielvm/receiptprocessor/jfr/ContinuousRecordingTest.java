@@ -0,0 +1,42 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.danielvm.receiptprocessor.config.JfrProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ContinuousRecordingTest {
+
+  @Test
+  void dump_should_not_contain_environment_or_system_properties() throws Exception {
+    // given: a continuous recording with the default settings
+    var sut = new ContinuousRecording(
+        new JfrProperties(true, "default", DataSize.ofMegabytes(10), Duration.ofMinutes(5)));
+
+    // when: the recording is dumped
+    Path dump = sut.dump().orElseThrow();
+    List<RecordedEvent> events;
+    try {
+      events = RecordingFile.readAllEvents(dump);
+    } finally {
+      sut.destroy();
+      Files.deleteIfExists(dump);
+    }
+
+    // then: the events holding the environment, system properties and JVM arguments are absent
+    assertThat(events)
+        .extracting(e -> e.getEventType().getName())
+        .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+  }
+}
@@ -0,0 +1,146 @@
+package com.danielvm.receiptprocessor.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.ExportProperties;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.controller.ReceiptController;
+import com.danielvm.receiptprocessor.entity.ReceiptEntity;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import com.danielvm.receiptprocessor.service.ReceiptExportService;
+import com.danielvm.receiptprocessor.service.ReceiptProcessingService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+/**
+ * Flight recorder events of requests that go through the web layer: the deserialization event of
+ * {@link com.danielvm.receiptprocessor.controller.ReceiptDeserializationAdvice} and the repository
+ * events of a points lookup
+ */
+@WebMvcTest(ReceiptController.class)
+@Import(ReceiptProcessingService.class)
+@EnableConfigurationProperties({ExportProperties.class, DataSourceRoutingProperties.class,
+    PartitioningProperties.class})
+// a replica, so that a receipt missing on it is looked up on the primary. No pool is created here
+@TestPropertySource(properties =
+    "receiptprocessor.datasource.replicas[0].url=jdbc:postgresql://replica:5432/receipt")
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptRequestEventsTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private ReceiptRepository receiptRepository;
+
+  @MockBean
+  private ReceiptExportService receiptExportService;
+
+  @FunctionalInterface
+  private interface Request {
+
+    void perform() throws Exception;
+  }
+
+  private static List<RecordedEvent> record(Class<? extends Event> eventType,
+      Request request) throws Exception {
+    Path dump = Files.createTempFile("request-events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventType);
+      recording.start();
+      request.perform();
+      recording.stop();
+      recording.dump(dump);
+      // other application events are enabled by default too, keep the ones asked for
+      String eventName = eventType.getAnnotation(Name.class).value();
+      return RecordingFile.readAllEvents(dump).stream()
+          .filter(e -> e.getEventType().getName().equals(eventName))
+          .toList();
+    } finally {
+      Files.deleteIfExists(dump);
+    }
+  }
+
+  @Test
+  void posting_a_receipt_should_emit_a_deserialization_event() throws Exception {
+    // given: a receipt from 'Target' with 5 items
+    byte[] receipt = new ClassPathResource("__files/receipt.json").getContentAsByteArray();
+    when(receiptRepository.save(any())).thenReturn(new ReceiptEntity(1L, 28));
+
+    // when: the receipt is posted while deserialization events are recorded
+    var events = record(ReceiptDeserializationEvent.class, () -> mockMvc.perform(
+            MockMvcRequestBuilders.post("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(receipt))
+        .andExpect(MockMvcResultMatchers.status().isOk()));
+
+    // then: there is one event describing the receipt that was read
+    assertThat(events).singleElement().satisfies(e -> {
+      assertThat(e.getInt("retailerLength")).isEqualTo(6);
+      assertThat(e.getInt("itemCount")).isEqualTo(5);
+    });
+  }
+
+  @Test
+  void getting_points_should_emit_a_repository_event() throws Exception {
+    // given: a receipt with 28 points found on the replica
+    when(receiptRepository.findById(1L)).thenReturn(Optional.of(new ReceiptEntity(1L, 28)));
+
+    // when: its points are requested while repository events are recorded
+    var events = record(ReceiptRepositoryEvent.class, () -> mockMvc.perform(
+            MockMvcRequestBuilders.get("/receipts/{id}/points", 1L))
+        .andExpect(MockMvcResultMatchers.status().isOk()));
+
+    // then: there is one event for the lookup
+    assertThat(events).singleElement().satisfies(e -> {
+      assertThat(e.getString("operation")).isEqualTo("findById");
+      assertThat(e.getLong("receiptId")).isEqualTo(1L);
+      assertThat(e.getInt("points")).isEqualTo(28);
+    });
+  }
+
+  @Test
+  void getting_points_missing_on_replica_should_emit_an_event_per_lookup() throws Exception {
+    // given: a receipt with 12 points that only the primary has so far
+    when(receiptRepository.findById(2L)).thenReturn(Optional.empty());
+    when(receiptRepository.findByIdOnPrimary(2L))
+        .thenReturn(Optional.of(new ReceiptEntity(2L, 12)));
+
+    // when: its points are requested while repository events are recorded
+    var events = record(ReceiptRepositoryEvent.class, () -> mockMvc.perform(
+            MockMvcRequestBuilders.get("/receipts/{id}/points", 2L))
+        .andExpect(MockMvcResultMatchers.status().isOk()));
+
+    // then: there is an event for the replica lookup and one for the primary lookup
+    assertThat(events)
+        .extracting(e -> e.getString("operation"), e -> e.getInt("points"))
+        .containsExactly(
+            tuple("findById", 0),
+            tuple("findByIdOnPrimary", 12));
+  }
+}
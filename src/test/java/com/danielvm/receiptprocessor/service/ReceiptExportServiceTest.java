@@ -0,0 +1,106 @@
+package com.danielvm.receiptprocessor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.danielvm.receiptprocessor.dto.ExportFormat;
+import com.danielvm.receiptprocessor.dto.ReceiptExportFilter;
+import com.danielvm.receiptprocessor.repository.ReceiptExportRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptExportServiceTest {
+
+  private static final ReceiptExportFilter ALL = new ReceiptExportFilter(null, null, null, null);
+
+  @Mock
+  ReceiptExportRepository repository;
+
+  @InjectMocks
+  ReceiptExportService sut;
+
+  /**
+   * Receipt 1 with 28 points created at 2024-07-01T10:00Z, receipt 2 without any points or
+   * creation time
+   */
+  private static ResultSet twoReceipts() throws Exception {
+    ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+    when(rs.getLong(1)).thenReturn(1L, 2L);
+    when(rs.getInt(2)).thenReturn(28, 0);
+    when(rs.wasNull()).thenReturn(false, true);
+    when(rs.getObject(3, OffsetDateTime.class))
+        .thenReturn(OffsetDateTime.parse("2024-07-01T10:00Z"), null);
+    return rs;
+  }
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(1);
+      ResultSet rs = twoReceipts();
+      handler.processRow(rs);
+      handler.processRow(rs);
+      return null;
+    }).when(repository).streamReceipts(any(), any());
+  }
+
+  @Test
+  void should_name_the_creation_time_the_same_in_both_formats() throws Exception {
+    // given: an output for each format
+    var csv = new ByteArrayOutputStream();
+    var ndjson = new ByteArrayOutputStream();
+
+    // when: the receipts are exported in both formats
+    sut.export(ALL, ExportFormat.CSV, csv);
+    sut.export(ALL, ExportFormat.NDJSON, ndjson);
+
+    // then: both call it createdAt, and format it as an ISO offset date time
+    assertThat(csv.toString(StandardCharsets.UTF_8)).isEqualTo("""
+        id,points,createdAt
+        1,28,2024-07-01T10:00:00Z
+        2,,
+        """);
+    assertThat(ndjson.toString(StandardCharsets.UTF_8)).isEqualTo("""
+        {"id":1,"points":28,"createdAt":"2024-07-01T10:00:00Z"}
+        {"id":2,"points":null,"createdAt":null}
+        """);
+  }
+
+  @Test
+  void should_stop_reading_receipts_when_interrupted() {
+    // given: an export whose request timed out, which interrupts the exporting thread
+    var output = new ByteArrayOutputStream();
+    Thread.currentThread().interrupt();
+
+    // when: the receipts are exported
+    // then: the export stops at the first receipt instead of writing into the completed response
+    try {
+      assertThatExceptionOfType(InterruptedIOException.class)
+          .isThrownBy(() -> sut.export(ALL, ExportFormat.NDJSON, output))
+          .withMessage("Export interrupted after 0 receipt(s)");
+      assertThat(output.size()).isZero();
+    } finally {
+      Thread.interrupted();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.danielvm.receiptprocessor.service;
+
+import static com.danielvm.receiptprocessor.service.ReceiptPartitionService.firstIdAt;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.entity.ReceiptPartition;
+import com.danielvm.receiptprocessor.repository.ReceiptPartitionRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptPartitionServiceTest {
+
+  @Mock
+  ReceiptPartitionRepository partitionRepository;
+
+  ReceiptPartitionService sut;
+
+  @BeforeEach
+  void setUp() {
+    // only the current day, no premade partitions
+    sut = new ReceiptPartitionService(partitionRepository, new PartitioningProperties(
+        true, Duration.ofDays(1), 0, Duration.ofDays(90), true));
+  }
+
+  @Test
+  void should_create_the_part_of_the_window_not_covered_by_an_existing_partition() {
+    // given: a partition covering the first half of today, e.g. created with a 12h interval
+    Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+    Instant noon = today.plus(12, ChronoUnit.HOURS);
+    long noonId = firstIdAt(noon);
+    when(partitionRepository.findPartitions()).thenReturn(List.of(
+        new ReceiptPartition("receipt_p20240701_0000", firstIdAt(today), noonId, false)));
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return true;
+    }).when(partitionRepository).runWithMaintenanceLock(any());
+
+    // when: the partitions are maintained
+    sut.maintainPartitions();
+
+    // then: the afternoon gets its own partition
+    verify(partitionRepository).createPartition(anyString(), eq(noonId),
+        eq(firstIdAt(today.plus(1, ChronoUnit.DAYS))));
+  }
+
+  @Test
+  void should_skip_maintenance_when_another_instance_holds_the_lock() {
+    // given: the advisory lock is held elsewhere
+    when(partitionRepository.runWithMaintenanceLock(any())).thenReturn(false);
+
+    // when: the partitions are maintained
+    sut.maintainPartitions();
+
+    // then: no partition is touched
+    verify(partitionRepository, never()).findPartitions();
+    verify(partitionRepository, never()).createPartition(anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void should_log_instead_of_failing_when_maintenance_fails() {
+    // given: the database rejects the maintenance
+    when(partitionRepository.isReceiptTablePartitioned()).thenReturn(true);
+    when(partitionRepository.runWithMaintenanceLock(any()))
+        .thenThrow(new IllegalStateException("connection refused"));
+
+    // when/then: the failure does not escape, so startup carries on
+    assertThatNoException().isThrownBy(sut::afterPropertiesSet);
+  }
+
+  @Test
+  void should_fail_startup_when_the_receipt_table_is_not_partitioned() {
+    // given: an existing database whose receipt table predates the partitioned schema
+    when(partitionRepository.isReceiptTablePartitioned()).thenReturn(false);
+
+    // when: the application starts
+    // then: startup fails with a clear error instead of retrying every hour
+    assertThatIllegalStateException()
+        .isThrownBy(sut::afterPropertiesSet)
+        .withMessageStartingWith("Partitioning is enabled but the receipt table is not");
+    verify(partitionRepository, never()).runWithMaintenanceLock(any());
+  }
+}
@@ -0,0 +1,106 @@
+package com.danielvm.receiptprocessor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.dto.Item;
+import com.danielvm.receiptprocessor.dto.Receipt;
+import com.danielvm.receiptprocessor.entity.ReceiptEntity;
+import com.danielvm.receiptprocessor.jfr.ReceiptRepositoryEvent;
+import com.danielvm.receiptprocessor.jfr.ReceiptRuleEvent;
+import com.danielvm.receiptprocessor.jfr.ReceiptScoreEvent;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ReceiptProcessingEventsTest {
+
+  @Mock
+  ReceiptRepository repository;
+
+  ReceiptProcessingService sut;
+
+  @BeforeEach
+  void setUp() {
+    sut = new ReceiptProcessingService(repository,
+        new DataSourceRoutingProperties(List.of(), Duration.ofSeconds(10)),
+        new PartitioningProperties(false, Duration.ofDays(1), 7, Duration.ofDays(90), true));
+  }
+
+  @Test
+  void process_receipt_should_emit_rule_score_and_repository_events() throws Exception {
+    // given: a receipt worth 12 points and a recording of the receipt processor events
+    Receipt receipt = new Receipt("Target", LocalDate.of(2024, 7, 30), LocalTime.of(13, 1),
+        List.of(new Item("Coke Zero", new BigDecimal("2.99")),
+            new Item("Kit Kat (BIG)", new BigDecimal("8.00")),
+            new Item(" Napolitan Ice Cream  ", new BigDecimal("12.83"))),
+        new BigDecimal("23.82"));
+    when(repository.save(any())).thenReturn(new ReceiptEntity(7L, 12));
+
+    List<RecordedEvent> events;
+    Path dump = Files.createTempFile("receipt-events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(ReceiptRuleEvent.class);
+      recording.enable(ReceiptScoreEvent.class);
+      recording.enable(ReceiptRepositoryEvent.class);
+      recording.start();
+
+      // when: process receipt is called
+      sut.processReceipt(receipt);
+
+      recording.stop();
+      recording.dump(dump);
+      events = RecordingFile.readAllEvents(dump);
+    } finally {
+      Files.deleteIfExists(dump);
+    }
+
+    // then: there is one event per rule describing the receipt
+    List<RecordedEvent> ruleEvents = eventsOfType(events, "ReceiptRule");
+    assertThat(ruleEvents).hasSize(7);
+    assertThat(ruleEvents).allSatisfy(e -> {
+      assertThat(e.getInt("retailerLength")).isEqualTo(6);
+      assertThat(e.getInt("itemCount")).isEqualTo(3);
+    });
+    assertThat(ruleEvents.stream().mapToInt(e -> e.getInt("points")).sum()).isEqualTo(12);
+
+    // and: one event with the total score
+    assertThat(eventsOfType(events, "ReceiptScore"))
+        .singleElement()
+        .satisfies(e -> assertThat(e.getInt("points")).isEqualTo(12));
+
+    // and: one event for saving the receipt
+    assertThat(eventsOfType(events, "ReceiptRepository"))
+        .singleElement()
+        .satisfies(e -> {
+          assertThat(e.getString("operation")).isEqualTo("save");
+          assertThat(e.getLong("receiptId")).isEqualTo(7L);
+        });
+  }
+
+  private static List<RecordedEvent> eventsOfType(List<RecordedEvent> events, String type) {
+    return events.stream()
+        .filter(e -> e.getEventType().getName().equals("com.danielvm.receiptprocessor." + type))
+        .toList();
+  }
+}
@@ -3,16 +3,23 @@ package com.danielvm.receiptprocessor.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties.Replica;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
 import com.danielvm.receiptprocessor.dto.Item;
 import com.danielvm.receiptprocessor.dto.Receipt;
 import com.danielvm.receiptprocessor.entity.ReceiptEntity;
 import com.danielvm.receiptprocessor.exception.ReceiptNotFoundException;
 import com.danielvm.receiptprocessor.repository.ReceiptRepository;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
@@ -20,6 +27,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
@@ -28,7 +36,6 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -39,9 +46,23 @@ public class ReceiptProcessingServiceTest {
   @Mock
   ReceiptRepository repository;
 
-  @InjectMocks
   ReceiptProcessingService sut;
 
+  private static DataSourceRoutingProperties oneReplica() {
+    return new DataSourceRoutingProperties(
+        List.of(new Replica("jdbc:postgresql://replica:5432/receipt", null, null)),
+        Duration.ofSeconds(10));
+  }
+
+  private static PartitioningProperties partitioning(boolean enabled) {
+    return new PartitioningProperties(enabled, Duration.ofDays(1), 7, Duration.ofDays(90), true);
+  }
+
+  @BeforeEach
+  void setUp() {
+    sut = new ReceiptProcessingService(repository, oneReplica(), partitioning(false));
+  }
+
   /**
    * 3 items -> 1 pairs of items = 5 points
    * </br>
@@ -313,6 +334,80 @@ public class ReceiptProcessingServiceTest {
     assertThat(entity.points()).isEqualTo(10);
   }
 
+  @Test
+  void should_read_points_from_primary_when_not_found_on_replica() {
+    // given: a receipt that was just created and has not reached the read replica yet
+    Long id = 3L;
+    when(repository.findById(id)).thenReturn(Optional.empty());
+    when(repository.findByIdOnPrimary(id)).thenReturn(Optional.of(new ReceiptEntity(3L, 28)));
+
+    // when: a getPoints is called
+    var entity = sut.getPoints(id);
+
+    // then: the points are read from the primary database
+    verify(repository, times(1)).findByIdOnPrimary(id);
+    assertThat(entity.points()).isEqualTo(28);
+  }
+
+  @Test
+  void should_not_read_from_primary_again_without_replicas() {
+    // given: no replicas, so the lookup already went to the primary
+    sut = new ReceiptProcessingService(repository,
+        new DataSourceRoutingProperties(List.of(), Duration.ofSeconds(10)), partitioning(false));
+    when(repository.findById(3L)).thenReturn(Optional.empty());
+
+    // when: the points of a missing receipt are requested
+    // then: the receipt is not found, after a single lookup
+    assertThatExceptionOfType(ReceiptNotFoundException.class)
+        .isThrownBy(() -> sut.getPoints(3L));
+    verify(repository, never()).findByIdOnPrimary(anyLong());
+  }
+
+  @Test
+  void should_read_from_primary_after_any_replica_miss_without_partitioning() {
+    // given: a receipt with a higher ID that was already found on a replica, and a receipt with a
+    // lower ID that committed later and has not reached the replica yet
+    when(repository.findById(5L)).thenReturn(Optional.of(new ReceiptEntity(5L, 10)));
+    when(repository.findById(4L)).thenReturn(Optional.empty());
+    when(repository.findByIdOnPrimary(4L)).thenReturn(Optional.of(new ReceiptEntity(4L, 28)));
+    sut.getPoints(5L);
+
+    // when: the points of the receipt with the lower ID are requested
+    var entity = sut.getPoints(4L);
+
+    // then: the points are read from the primary database
+    assertThat(entity.points()).isEqualTo(28);
+  }
+
+  @Test
+  void should_read_recent_partitioned_receipt_from_primary() {
+    // given: a partitioned receipt created just now, not on the replica yet
+    sut = new ReceiptProcessingService(repository, oneReplica(), partitioning(true));
+    long id = ReceiptPartitionService.firstIdAt(Instant.now()) + 1;
+    when(repository.findById(id)).thenReturn(Optional.empty());
+    when(repository.findByIdOnPrimary(id)).thenReturn(Optional.of(new ReceiptEntity(id, 28)));
+
+    // when: a getPoints is called
+    var entity = sut.getPoints(id);
+
+    // then: the points are read from the primary database
+    assertThat(entity.points()).isEqualTo(28);
+  }
+
+  @Test
+  void should_not_read_old_partitioned_receipt_from_primary() {
+    // given: a partitioned receipt created an hour ago, well beyond the replica lag
+    sut = new ReceiptProcessingService(repository, oneReplica(), partitioning(true));
+    long id = ReceiptPartitionService.firstIdAt(Instant.now().minusSeconds(3600)) + 1;
+    when(repository.findById(id)).thenReturn(Optional.empty());
+
+    // when: a getPoints is called
+    // then: the receipt is not found, after a single lookup
+    assertThatExceptionOfType(ReceiptNotFoundException.class)
+        .isThrownBy(() -> sut.getPoints(id));
+    verify(repository, never()).findByIdOnPrimary(anyLong());
+  }
+
   @Test
   void should_throw_an_error_for_non_existent_receipt_id() {
     // given: a receipt entity ID that's not in the DB
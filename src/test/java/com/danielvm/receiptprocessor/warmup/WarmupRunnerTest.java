@@ -0,0 +1,164 @@
+package com.danielvm.receiptprocessor.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.danielvm.receiptprocessor.config.DataSourceRoutingProperties;
+import com.danielvm.receiptprocessor.config.PartitioningProperties;
+import com.danielvm.receiptprocessor.config.WarmupProperties;
+import com.danielvm.receiptprocessor.jfr.ReceiptRuleEvent;
+import com.danielvm.receiptprocessor.jfr.ReceiptScoreEvent;
+import com.danielvm.receiptprocessor.repository.ReceiptRepository;
+import com.danielvm.receiptprocessor.service.ReceiptProcessingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.actuate.health.Status;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class WarmupRunnerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private final WarmupHealthIndicator healthIndicator = new WarmupHealthIndicator();
+
+  @Mock
+  ReceiptRepository repository;
+
+  private WarmupRunner runner(WarmupProperties properties, int poolSize) {
+    // never started, the pool only provides its size
+    var dataSource = new HikariDataSource();
+    dataSource.setMaximumPoolSize(poolSize);
+    var receiptProcessingService = new ReceiptProcessingService(repository,
+        new DataSourceRoutingProperties(List.of(), Duration.ofSeconds(10)),
+        new PartitioningProperties(false, Duration.ofDays(1), 7, Duration.ofDays(90), true));
+    return new WarmupRunner(properties, objectMapper, receiptProcessingService, repository,
+        dataSource, healthIndicator);
+  }
+
+  @Test
+  void should_report_out_of_service_before_warm_up() {
+    // given: an application that has not run the warm-up yet
+    // when: the health is checked
+    // then: the warm-up indicator keeps the application out of service
+    assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+  }
+
+  @Test
+  void should_warm_up_without_writing_receipts() throws Exception {
+    // given: a warm-up of 50 receipts and 3 database round trips
+    var sut = runner(new WarmupProperties(true, 50, 3), 10);
+    var serviceLogger = (Logger) LoggerFactory.getLogger(ReceiptProcessingService.class);
+    var serviceLogs = new ListAppender<ILoggingEvent>();
+    serviceLogs.start();
+    serviceLogger.addAppender(serviceLogs);
+
+    // when: the warm-up runs
+    try {
+      sut.run(new DefaultApplicationArguments());
+    } finally {
+      serviceLogger.detachAppender(serviceLogs);
+    }
+
+    // then: the database is only read, from the replica and from the primary
+    verify(repository, times(3)).findById(-1L);
+    verify(repository, times(3)).findByIdOnPrimary(-1L);
+    verify(repository, never()).save(any());
+
+    // and: the rules of the synthetic receipts did not log, and the marker was removed
+    assertThat(serviceLogs.list).isEmpty();
+    assertThat(MDC.get(WarmupRunner.WARMUP_MDC_KEY)).isNull();
+
+    // and: the application reports ready
+    assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+  }
+
+  @Test
+  void should_report_ready_when_warm_up_is_disabled() throws Exception {
+    // given: a disabled warm-up
+    var sut = runner(new WarmupProperties(false, 50, 3), 10);
+
+    // when: the warm-up runs
+    sut.run(new DefaultApplicationArguments());
+
+    // then: nothing is sent to the database
+    verify(repository, never()).findById(any());
+
+    // and: the application reports ready right away
+    assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+  }
+
+  @Test
+  void should_send_the_lookups_from_as_many_threads_as_the_pool_holds() throws Exception {
+    // given: a pool of 4 connections, with every lookup waiting until 4 threads look up at once
+    var threads = ConcurrentHashMap.<Thread>newKeySet();
+    var concurrentLookups = new CyclicBarrier(4);
+    when(repository.findById(-1L)).thenAnswer(invocation -> {
+      threads.add(Thread.currentThread());
+      concurrentLookups.await(5, TimeUnit.SECONDS);
+      return Optional.empty();
+    });
+    var sut = runner(new WarmupProperties(true, 1, 8), 4);
+
+    // when: the warm-up runs
+    sut.run(new DefaultApplicationArguments());
+
+    // then: all 8 round trips are sent, from 4 threads
+    verify(repository, times(8)).findById(-1L);
+    verify(repository, times(8)).findByIdOnPrimary(-1L);
+    assertThat(threads).hasSize(4);
+  }
+
+  @Test
+  void should_not_record_flight_recorder_events_for_synthetic_receipts() throws Exception {
+    // given: a recording of the rule and score events
+    var sut = runner(new WarmupProperties(true, 50, 1), 1);
+
+    List<RecordedEvent> events;
+    Path dump = Files.createTempFile("warmup-events", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(ReceiptRuleEvent.class);
+      recording.enable(ReceiptScoreEvent.class);
+      recording.start();
+
+      // when: the warm-up runs
+      sut.run(new DefaultApplicationArguments());
+
+      recording.stop();
+      recording.dump(dump);
+      events = RecordingFile.readAllEvents(dump);
+    } finally {
+      Files.deleteIfExists(dump);
+    }
+
+    // then: none of the synthetic receipts shows up in the recording
+    assertThat(events).isEmpty();
+  }
+}
@@ -1,5 +1,6 @@
 CREATE TABLE IF NOT EXISTS receipt
 (
     id serial PRIMARY KEY,
-    points INTEGER
-);
\ No newline at end of file
+    points INTEGER,
+    created_at TIMESTAMPTZ DEFAULT now()
+);